@@ -1,6 +1,7 @@
 package blockchain;
 
 import blockchain.utils.CryptoUtils;
+import blockchain.utils.HashBackend;
 import blockchain.utils.StringUtil;
 
 import java.io.Serializable;
@@ -8,14 +9,13 @@ import java.nio.charset.StandardCharsets;
 import java.security.PrivateKey;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.regex.Pattern;
 
 public class Block implements Serializable {
 
     private static final long serialVersionUID = 2392606367124566105L;
+    private static final HashBackend HASH_BACKEND = HashBackend.fromSystemProperty();
+    private static final String HASH_SUFFIX = "]";
     private final long id;
     private final String creatorName;
     private final long creatorId;
@@ -31,22 +31,25 @@ public class Block implements Serializable {
         this.id = id;
         this.timeStamp = Instant.now().toEpochMilli();
         this.previousBlockHash = previousBlockHash;
-        ThreadLocalRandom rng = ThreadLocalRandom.current();
-        String hash;
-        long magicNumber;
-        Pattern zeroPattern = Pattern.compile(String.format(BlockChain.ZERO_REGEX, n));
         Instant start = Instant.now();
-        do {
-            magicNumber = rng.nextLong();
-            hash = StringUtil.applySha256(Arrays.toString(new Object[]{id, timeStamp, previousBlockHash, magicNumber}));
-        } while (!zeroPattern.matcher(hash).matches());
+        // Split around the nonce so backends can cache the constant prefix
+        long magicNumber = HASH_BACKEND.findNonce(hashPrefix(id, timeStamp, previousBlockHash), HASH_SUFFIX, n);
         generationTimeSeconds = Duration.between(start, Instant.now()).toSeconds();
-        this.hash = hash;
+        this.hash = calculateHash(id, timeStamp, previousBlockHash, magicNumber);
         this.magicNumber = magicNumber;
         this.creatorName = creatorName;
         this.creatorId = creatorId;
     }
 
+    public static String calculateHash(long id, long timeStamp, String previousBlockHash, long magicNumber) {
+        return StringUtil.applySha256(hashPrefix(id, timeStamp, previousBlockHash) + magicNumber + HASH_SUFFIX);
+    }
+
+    /* Preimage up to the nonce, "[id, timeStamp, previousBlockHash, " as Arrays.toString lays it out. */
+    private static String hashPrefix(long id, long timeStamp, String previousBlockHash) {
+        return "[" + id + ", " + timeStamp + ", " + previousBlockHash + ", ";
+    }
+
     public void sign(PrivateKey privateKey) {
         try {
             creatorSign = CryptoUtils.signData(privateKey, creatorName.getBytes(StandardCharsets.UTF_8));
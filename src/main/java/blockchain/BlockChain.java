@@ -2,14 +2,15 @@ package blockchain;
 
 import blockchain.user.Miner;
 import blockchain.user.User;
+import blockchain.user.UserRegistry;
 import blockchain.utils.CryptoUtils;
 import blockchain.utils.SerializationUtils;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -20,9 +21,10 @@ public class BlockChain implements Serializable {
 
     private static final BlockChain instance = new BlockChain();
     private static final String FILE_NAME = "block.chain";
+    public static final String LOG_FILE_NAME = "block.log";
     private static final long INITIAL_ID = 1;
-    private static final int INITIAL_N = 0;
-    private static final String INITIAL_HASH = "0";
+    static final int INITIAL_N = 0;
+    static final String INITIAL_HASH = "0";
     public static final String ZERO_REGEX = "0{%d}.+";
     private static final long serialVersionUID = -5981475679654647069L;
     private long nextBlockId;
@@ -38,12 +40,13 @@ public class BlockChain implements Serializable {
     private final Condition addingBlockCondition;
     private long maxTransactionId;
     private long currentTransactionId;
-    private final Map<Long, User> users;
-    private long lastUserId;
+    private final UserRegistry users;
+    private final transient ChainLog log;
 
     private BlockChain() {
         BlockChain blockChain = null;
-        users = new Hashtable<>();
+        users = new UserRegistry();
+        log = new ChainLog(LOG_FILE_NAME);
         blocks = new ArrayList<>();
         transactions = new ArrayList<>();
         /*File file = new File(FILE_NAME);
@@ -62,7 +65,6 @@ public class BlockChain implements Serializable {
             transactions.addAll(blockChain.transactions);
             maxTransactionId = blockChain.maxTransactionId;
             currentTransactionId = blockChain.currentTransactionId;
-            lastUserId = blockChain.lastUserId;
             numberOfZeros = blockChain.numberOfZeros;
         } else {
             previousBlockHash = INITIAL_HASH;
@@ -79,7 +81,7 @@ public class BlockChain implements Serializable {
 
     private BlockChain loadFromFile() throws Exception {
         BlockChain blockChain = (BlockChain) SerializationUtils.deserialize(FILE_NAME);
-        users.putAll(blockChain.users);
+        users.registerAll(blockChain.users);
         for (Block block : blockChain.blocks) {
             if (!isBlockValid(block)) {
                 throw new RuntimeException("Corrupted File: Contains invalid blocks.");
@@ -94,24 +96,33 @@ public class BlockChain implements Serializable {
     }
 
     public void registerUser(User user) {
-        users.put(user.getId(), user);
-        lastUserId = user.getId();
-    }
-
-    public long getRandomUserId(long id) {
+        // Blocks are validated and logged under the write lock, so the user record is logged before any of its blocks
         readLock.lock();
         try {
-            ThreadLocalRandom rng = ThreadLocalRandom.current();
-            User randomUser;
-            do {
-                randomUser = users.get(rng.nextLong(lastUserId));
-            } while (randomUser == null || id == randomUser.getId());
-            return randomUser.getId();
+            if (users.register(user)) {
+                try {
+                    log.appendUser(user.getId(), user.getName(), user.getEncodedPublicKey());
+                } catch (IOException e) {
+                    System.out.println("Log :" + e.getMessage());
+                }
+            }
         } finally {
             readLock.unlock();
         }
     }
 
+    public void resetLog() {
+        try {
+            log.reset();
+        } catch (IOException e) {
+            System.out.println("Log :" + e.getMessage());
+        }
+    }
+
+    public long getRandomUserId(long id) {
+        return users.getRandomUserId(id);
+    }
+
     public long getUserVC(User user) {
         readLock.lock();
         try {
@@ -167,12 +178,12 @@ public class BlockChain implements Serializable {
         long id = transaction.getId();
         // Id Check
         if (transactions.stream().noneMatch(t -> t.getId() < maxTransactionId || id == t.getId())) {
-            User user = users.get(transaction.getSenderId());
-            if (user != null) {
+            UserRegistry.Entry sender = users.getEntry(transaction.getSenderId());
+            if (sender != null) {
                 // Signature Check
                 try {
-                    if(CryptoUtils.verifySignature(user.getEncodedPublicKey(), transaction.getSignature(), transaction.getTransactionBytes())) {
-                        return getUserVC(user) >= transaction.getAmount();
+                    if(CryptoUtils.verifySignature(sender.getPublicKey(), transaction.getSignature(), transaction.getTransactionBytes())) {
+                        return getUserVC(sender.getUser()) >= transaction.getAmount();
                     }
                 } catch (Exception e) {
                     System.out.println(e.getMessage());
@@ -196,7 +207,7 @@ public class BlockChain implements Serializable {
                 }
                 nextBlockId++;
                 previousBlockHash = block.getHash();
-                int adjustment = adjustNumberOfZeros(block.getGenerationTimeSeconds());
+                int adjustment = adjustNumberOfZeros(numberOfZeros, block.getGenerationTimeSeconds());
                 if (adjustment != 0) {
                     updateZeroPattern();
                 }
@@ -207,6 +218,11 @@ public class BlockChain implements Serializable {
                 } catch (IOException e) {
                     System.out.println("Serialize :" + e.getMessage());
                 }
+                try {
+                    log.appendBlock(block);
+                } catch (IOException e) {
+                    System.out.println("Log :" + e.getMessage());
+                }
                 printBlock(block, adjustment);
             }
         } finally {
@@ -248,11 +264,11 @@ public class BlockChain implements Serializable {
     }
 
     private boolean isBlockValid(Block block) {
-        User user = users.get(block.getCreatorId());
+        PublicKey publicKey = users.getPublicKey(block.getCreatorId());
         boolean isSignatureValid = false;
-        if (user != null) {
+        if (publicKey != null) {
             try {
-                isSignatureValid = CryptoUtils.verifySignature(user.getEncodedPublicKey(), block.getCreatorSign(), block.getCreatorName().getBytes(StandardCharsets.UTF_8));
+                isSignatureValid = CryptoUtils.verifySignature(publicKey, block.getCreatorSign(), block.getCreatorName().getBytes(StandardCharsets.UTF_8));
             } catch (Exception e) {
                 System.out.println(e.getMessage());
             }
@@ -262,7 +278,7 @@ public class BlockChain implements Serializable {
                 && isSignatureValid;
     }
 
-    private int adjustNumberOfZeros(long blockGenTime) {
+    static int adjustNumberOfZeros(int numberOfZeros, long blockGenTime) {
         if (blockGenTime < 1 && numberOfZeros < 4) {
             return 1;
         } else if (blockGenTime > 1 || numberOfZeros >= 4){
@@ -273,7 +289,7 @@ public class BlockChain implements Serializable {
     }
 
     private void updateZeroPattern() {
-        zeroPattern = Pattern.compile(String.format(ZERO_REGEX, numberOfZeros));
+        zeroPattern = Pattern.compile(String.format(Locale.ROOT, ZERO_REGEX, numberOfZeros));
     }
 
     public void printBlock(Block block, int adjustment) {
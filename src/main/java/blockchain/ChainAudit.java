@@ -0,0 +1,106 @@
+package blockchain;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+/* Command line tool to verify or export a chain log without loading it into memory. */
+public class ChainAudit {
+
+    private static final String USAGE = "Usage: ChainAudit verify [log file] | export [log file] <output file>";
+    private static final int EXIT_INVALID = 1;
+    private static final int EXIT_ERROR = 2;
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /* Returns the exit status: 0 on success, 1 for an invalid chain, 2 for usage or read errors. */
+    static int run(String[] args) {
+        if (args.length == 0) {
+            System.out.println(USAGE);
+            return EXIT_ERROR;
+        }
+        try {
+            switch (args[0]) {
+                case "verify":
+                    String logFile = args.length > 1 ? args[1] : BlockChain.LOG_FILE_NAME;
+                    boolean valid = new ChainVerifier(Runtime.getRuntime().availableProcessors()).verify(logFile);
+                    System.out.println(valid ? "Chain is valid" : "Chain is invalid");
+                    return valid ? 0 : EXIT_INVALID;
+                case "export":
+                    if (args.length == 2) {
+                        export(BlockChain.LOG_FILE_NAME, args[1]);
+                    } else if (args.length == 3) {
+                        export(args[1], args[2]);
+                    } else {
+                        System.out.println(USAGE);
+                        return EXIT_ERROR;
+                    }
+                    return 0;
+                default:
+                    System.out.println(USAGE);
+                    return EXIT_ERROR;
+            }
+        } catch (Exception e) {
+            System.out.println(e);
+            return EXIT_ERROR;
+        }
+    }
+
+    /* Writes one tab separated line per block, transactions as id:from:to:amount. */
+    public static void export(String logFile, String outputFile) throws IOException, ClassNotFoundException {
+        try (ChainLog.Reader reader = ChainLog.open(logFile);
+             BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile, StandardCharsets.UTF_8))) {
+            Block block;
+            while ((block = reader.nextBlock()) != null) {
+                StringJoiner transactions = new StringJoiner(",");
+                for (Transaction t : block.getTransactions()) {
+                    transactions.add(t.getId() + ":" + t.getSenderId() + ":" + t.getRecipientId() + ":" + t.getAmount());
+                }
+                StringJoiner line = new StringJoiner("\t");
+                line.add(String.valueOf(block.getId()))
+                        .add(String.valueOf(block.getTimeStamp()))
+                        .add(String.valueOf(block.getCreatorId()))
+                        .add(escape(block.getCreatorName()))
+                        .add(String.valueOf(block.getMagicNumber()))
+                        .add(escape(block.getPreviousBlockHash()))
+                        .add(escape(block.getHash()))
+                        .add(String.valueOf(block.getGenerationTimeSeconds()))
+                        .add(transactions.toString());
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /* Escapes backslashes and line or field separators so every block stays on one line. */
+    static String escape(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package blockchain;
+
+import blockchain.utils.SerializationUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/* Append-only log of users and blocks, so a chain can be read back one block at a time. */
+public class ChainLog implements Closeable {
+
+    private static final byte USER_RECORD = 1;
+    private static final byte BLOCK_RECORD = 2;
+    static final int MAX_KEY_LENGTH = 16 * 1024;
+    static final int MAX_BLOCK_LENGTH = 64 * 1024 * 1024;
+    // Only what a Block is made of: its own classes, the lists holding transactions, strings and arrays
+    private static final ObjectInputFilter BLOCK_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=10;maxarray=" + MAX_BLOCK_LENGTH + ";blockchain.Block;blockchain.Transaction;"
+                    + "java.util.ArrayList;java.util.CollSer;java.util.ImmutableCollections$*;"
+                    + "java.lang.String;java.lang.Object;!*");
+    private final String fileName;
+    // Records can span several writes, so appends must not interleave
+    private final Lock appendLock;
+    private DataOutputStream dos;
+
+    public ChainLog(String fileName) {
+        this.fileName = fileName;
+        appendLock = new ReentrantLock();
+    }
+
+    public void reset() throws IOException {
+        appendLock.lock();
+        try {
+            closeStream();
+            Files.deleteIfExists(Path.of(fileName));
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void appendUser(long id, String name, byte[] encodedPublicKey) throws IOException {
+        appendLock.lock();
+        try {
+            DataOutputStream out = stream();
+            out.writeByte(USER_RECORD);
+            out.writeLong(id);
+            out.writeUTF(name);
+            out.writeInt(encodedPublicKey.length);
+            out.write(encodedPublicKey);
+            out.flush();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void appendBlock(Block block) throws IOException {
+        byte[] bytes = SerializationUtils.toBytes(block);
+        if (bytes.length > MAX_BLOCK_LENGTH) {
+            throw new IOException("Block " + block.getId() + " is too large for the log");
+        }
+        appendLock.lock();
+        try {
+            DataOutputStream out = stream();
+            out.writeByte(BLOCK_RECORD);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.flush();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            closeStream();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public static Reader open(String fileName) throws IOException {
+        return new Reader(fileName);
+    }
+
+    private DataOutputStream stream() throws IOException {
+        if (dos == null) {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName, true)));
+        }
+        return dos;
+    }
+
+    private void closeStream() throws IOException {
+        if (dos != null) {
+            dos.close();
+            dos = null;
+        }
+    }
+
+    /* Reads blocks in chain order, collecting the public keys of the users registered before them. */
+    public static class Reader implements Closeable {
+
+        private final DataInputStream dis;
+        private final Map<Long, byte[]> publicKeys;
+        private final Map<Long, String> userNames;
+
+        private Reader(String fileName) throws IOException {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+            publicKeys = new HashMap<>();
+            userNames = new HashMap<>();
+        }
+
+        /* Returns the next block, or null at the end of the log. */
+        public Block nextBlock() throws IOException, ClassNotFoundException {
+            int type;
+            while ((type = dis.read()) != -1) {
+                try {
+                    switch (type) {
+                        case USER_RECORD:
+                            long id = dis.readLong();
+                            String name = dis.readUTF();
+                            byte[] key = readBytes(MAX_KEY_LENGTH);
+                            // Like the registry, the first registration of an id wins
+                            userNames.putIfAbsent(id, name);
+                            publicKeys.putIfAbsent(id, key);
+                            break;
+                        case BLOCK_RECORD:
+                            byte[] bytes = readBytes(MAX_BLOCK_LENGTH);
+                            return (Block) SerializationUtils.fromBytes(bytes, BLOCK_FILTER);
+                        default:
+                            throw new IOException("Corrupted File: Unknown record type " + type);
+                    }
+                } catch (EOFException e) {
+                    throw new IOException("Corrupted File: truncated record", e);
+                } catch (InvalidClassException | ClassCastException e) {
+                    throw new IOException("Corrupted File: unexpected content in block record", e);
+                }
+            }
+            return null;
+        }
+
+        public byte[] getPublicKey(long userId) {
+            return publicKeys.get(userId);
+        }
+
+        public String getUserName(long userId) {
+            return userNames.get(userId);
+        }
+
+        @Override
+        public void close() throws IOException {
+            dis.close();
+        }
+
+        private byte[] readBytes(int maxLength) throws IOException {
+            int length = dis.readInt();
+            if (length < 0 || length > maxLength) {
+                throw new IOException("Corrupted File: invalid record length " + length);
+            }
+            byte[] bytes = new byte[length];
+            dis.readFully(bytes);
+            return bytes;
+        }
+    }
+}
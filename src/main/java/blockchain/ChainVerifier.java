@@ -0,0 +1,119 @@
+package blockchain;
+
+import blockchain.utils.CryptoUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/* Verifies a chain log block by block without loading the whole chain into memory. */
+public class ChainVerifier {
+
+    private static final int BLOCKS_IN_FLIGHT_PER_THREAD = 4;
+    private final int threads;
+
+    public ChainVerifier(int threads) {
+        this.threads = threads;
+    }
+
+    public boolean verify(String fileName) throws IOException, ClassNotFoundException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * BLOCKS_IN_FLIGHT_PER_THREAD);
+        AtomicLong invalidBlocks = new AtomicLong();
+        long verifiedBlocks = 0;
+        try (ChainLog.Reader reader = ChainLog.open(fileName)) {
+            String previousBlockHash = BlockChain.INITIAL_HASH;
+            int numberOfZeros = BlockChain.INITIAL_N;
+            // Mirrors BlockChain, whose pattern is refreshed before the adjustment is applied
+            Pattern zeroPattern = Pattern.compile(String.format(Locale.ROOT, BlockChain.ZERO_REGEX, numberOfZeros));
+            Block block;
+            while ((block = reader.nextBlock()) != null) {
+                verifiedBlocks++;
+                // Linkage and target depend on the previous blocks, so they are checked in order
+                String linkError = null;
+                if (!Objects.equals(previousBlockHash, block.getPreviousBlockHash())) {
+                    linkError = "broken link to the previous block";
+                } else if (!zeroPattern.matcher(block.getHash()).matches()) {
+                    linkError = "hash does not meet the target";
+                }
+                previousBlockHash = block.getHash();
+                int adjustment = BlockChain.adjustNumberOfZeros(numberOfZeros, block.getGenerationTimeSeconds());
+                if (adjustment != 0) {
+                    zeroPattern = Pattern.compile(String.format(Locale.ROOT, BlockChain.ZERO_REGEX, numberOfZeros));
+                }
+                numberOfZeros += adjustment;
+
+                // Hash and signatures only depend on the block itself, so they are checked in parallel
+                Block current = block;
+                String blockError = linkError;
+                byte[] creatorKey = reader.getPublicKey(block.getCreatorId());
+                List<byte[]> senderKeys = new ArrayList<>();
+                for (Transaction transaction : block.getTransactions()) {
+                    senderKeys.add(reader.getPublicKey(transaction.getSenderId()));
+                }
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        String error = blockError != null ? blockError : checkBlock(current, creatorKey, senderKeys);
+                        if (error != null) {
+                            reportInvalid(current, error, invalidBlocks);
+                        }
+                    } catch (RuntimeException e) {
+                        // A malformed block must count as invalid rather than vanish in the executor
+                        reportInvalid(current, "malformed block (" + e + ")", invalidBlocks);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+        }
+        System.out.printf("Verified %d blocks, %d invalid%n", verifiedBlocks, invalidBlocks.get());
+        return invalidBlocks.get() == 0;
+    }
+
+    private static String checkBlock(Block block, byte[] creatorKey, List<byte[]> senderKeys) {
+        String hash = Block.calculateHash(block.getId(), block.getTimeStamp(), block.getPreviousBlockHash(), block.getMagicNumber());
+        if (!hash.equals(block.getHash())) {
+            return "hash does not match the block contents";
+        }
+        if (!isSignatureValid(creatorKey, block.getCreatorSign(), block.getCreatorName().getBytes(StandardCharsets.UTF_8))) {
+            return "invalid creator signature";
+        }
+        List<Transaction> transactions = block.getTransactions();
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (!isSignatureValid(senderKeys.get(i), transaction.getSignature(), transaction.getTransactionBytes())) {
+                return "invalid signature on transaction " + transaction.getId();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSignatureValid(byte[] encodedKey, byte[] signature, byte[] data) {
+        if (encodedKey == null || signature == null) {
+            return false;
+        }
+        try {
+            return CryptoUtils.verifySignature(encodedKey, signature, data);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void reportInvalid(Block block, String reason, AtomicLong invalidBlocks) {
+        invalidBlocks.incrementAndGet();
+        System.out.printf("Block %d is invalid: %s%n", block.getId(), reason);
+    }
+}
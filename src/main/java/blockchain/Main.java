@@ -21,6 +21,7 @@ public class Main {
     private static final BlockChain blockChain = BlockChain.getInstance();
 
     public static void main(String[] args) {
+        blockChain.resetLog();
         ExecutorService minerExecutor = Executors.newFixedThreadPool(MINER_THREADS);
         ExecutorService spenderExecutor = Executors.newFixedThreadPool(MINER_THREADS + USERS.size());
         List<Miner> miners = createMiners();
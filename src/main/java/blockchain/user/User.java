@@ -7,6 +7,7 @@ import blockchain.utils.CryptoUtils;
 import java.io.Serializable;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
 
 public class User implements Serializable {
     private static final int KEY_LENGTH = 1024;
@@ -32,6 +33,10 @@ public class User implements Serializable {
         return keyPair.getPublic().getEncoded();
     }
 
+    public PublicKey getPublicKey() {
+        return keyPair.getPublic();
+    }
+
     public long getId() {
         return id;
     }
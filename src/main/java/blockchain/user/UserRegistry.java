@@ -0,0 +1,109 @@
+package blockchain.user;
+
+import blockchain.utils.LongConcurrentMap;
+
+import java.io.Serializable;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Registered users by id, with their public keys kept decoded for signature checks.
+ * A dense array of ids allows picking a random user in constant time however sparse the ids are.
+ */
+public class UserRegistry implements Serializable {
+
+    private static final long serialVersionUID = -8145019238372846151L;
+    private static final int INITIAL_CAPACITY = 16;
+    private final LongConcurrentMap<Entry> users;
+    private volatile long[] ids;
+    private volatile int size;
+
+    public UserRegistry() {
+        users = new LongConcurrentMap<>();
+        ids = new long[INITIAL_CAPACITY];
+    }
+
+    /* Registers the user, returning false and keeping the existing registration if its id is taken. */
+    public synchronized boolean register(User user) {
+        long id = user.getId();
+        if (users.putIfAbsent(id, new Entry(user, user.getPublicKey())) != null) {
+            return false;
+        }
+        long[] current = ids;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = id;
+        // Publish the array before the size, readers load them in the opposite order
+        ids = current;
+        size++;
+        return true;
+    }
+
+    public void registerAll(UserRegistry other) {
+        int otherSize = other.size;
+        long[] otherIds = other.ids;
+        for (int i = 0; i < otherSize; i++) {
+            register(other.get(otherIds[i]));
+        }
+    }
+
+    /* Returns the user together with its decoded public key in a single lookup, or null. */
+    public Entry getEntry(long id) {
+        return users.get(id);
+    }
+
+    public User get(long id) {
+        Entry entry = users.get(id);
+        return entry == null ? null : entry.user;
+    }
+
+    public PublicKey getPublicKey(long id) {
+        Entry entry = users.get(id);
+        return entry == null ? null : entry.publicKey;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /* Returns the id of a random registered user other than excludedId. */
+    public long getRandomUserId(long excludedId) {
+        int currentSize = size;
+        long[] currentIds = ids;
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        if (!users.containsKey(excludedId)) {
+            if (currentSize == 0) {
+                throw new IllegalStateException("No registered users");
+            }
+            return currentIds[rng.nextInt(currentSize)];
+        }
+        if (currentSize < 2) {
+            throw new IllegalStateException("No other registered users");
+        }
+        // Draw among all but the last slot and swap the excluded id for the last one
+        long id = currentIds[rng.nextInt(currentSize - 1)];
+        return id == excludedId ? currentIds[currentSize - 1] : id;
+    }
+
+    public static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = 6207118458239746520L;
+        private final User user;
+        private final PublicKey publicKey;
+
+        private Entry(User user, PublicKey publicKey) {
+            this.user = user;
+            this.publicKey = publicKey;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+    }
+}
@@ -19,10 +19,14 @@ public class CryptoUtils {
     }
 
     public static boolean verifySignature(byte[] encodedKey, byte[] signature, byte[] data) throws NoSuchAlgorithmException, InvalidKeySpecException, SignatureException, InvalidKeyException {
-        Signature sig = Signature.getInstance("SHA1withRSA");
         X509EncodedKeySpec spec = new X509EncodedKeySpec(encodedKey);
         KeyFactory kf = KeyFactory.getInstance("RSA");
-        sig.initVerify(kf.generatePublic(spec));
+        return verifySignature(kf.generatePublic(spec), signature, data);
+    }
+
+    public static boolean verifySignature(PublicKey publicKey, byte[] signature, byte[] data) throws NoSuchAlgorithmException, SignatureException, InvalidKeyException {
+        Signature sig = Signature.getInstance("SHA1withRSA");
+        sig.initVerify(publicKey);
         sig.update(data);
         return sig.verify(signature);
     }
@@ -0,0 +1,57 @@
+package blockchain.utils;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/* Ways of searching a nonce whose hash of prefix + nonce + suffix starts with the required zeros. */
+public enum HashBackend {
+
+    /* Hashes the whole input with MessageDigest for every nonce. */
+    DIGEST {
+        @Override
+        public long findNonce(String prefix, String suffix, int numberOfZeros) {
+            ThreadLocalRandom rng = ThreadLocalRandom.current();
+            String zeros = "0".repeat(numberOfZeros);
+            long nonce;
+            do {
+                nonce = rng.nextLong();
+            } while (!StringUtil.applySha256(prefix + nonce + suffix).startsWith(zeros));
+            return nonce;
+        }
+    },
+    /* Caches the prefix midstate and hashes several nonces per call, see Sha256Midstate. */
+    MIDSTATE {
+        @Override
+        public long findNonce(String prefix, String suffix, int numberOfZeros) {
+            ThreadLocalRandom rng = ThreadLocalRandom.current();
+            Sha256Midstate sha256 = new Sha256Midstate(prefix, suffix);
+            long[] nonces = new long[Sha256Midstate.LANES];
+            int match;
+            do {
+                for (int i = 0; i < nonces.length; i++) {
+                    nonces[i] = rng.nextLong();
+                }
+                match = sha256.findMatch(nonces, numberOfZeros);
+            } while (match < 0);
+            return nonces[match];
+        }
+    };
+
+    private static final String PROPERTY = "blockchain.hashBackend";
+
+    public abstract long findNonce(String prefix, String suffix, int numberOfZeros);
+
+    /* Backend selected with -Dblockchain.hashBackend=DIGEST|MIDSTATE, MIDSTATE by default or if unknown. */
+    public static HashBackend fromSystemProperty() {
+        String name = System.getProperty(PROPERTY);
+        if (name == null) {
+            return MIDSTATE;
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.printf("Unknown %s '%s', using %s%n", PROPERTY, name, MIDSTATE);
+            return MIDSTATE;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package blockchain.utils;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Open addressing map keyed by primitive longs. Reads are lock free, writes are serialized on the map.
+ * Nodes are immutable and a resized table is only published once it is fully populated.
+ */
+public class LongConcurrentMap<V> implements Serializable {
+
+    private static final long serialVersionUID = 4318263930127452214L;
+    private static final int INITIAL_CAPACITY = 16;
+    private volatile AtomicReferenceArray<Node<V>> table;
+    private int size;
+
+    public LongConcurrentMap() {
+        table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    }
+
+    public V get(long key) {
+        AtomicReferenceArray<Node<V>> tab = table;
+        int mask = tab.length() - 1;
+        for (int i = indexFor(key, mask); ; i = (i + 1) & mask) {
+            Node<V> node = tab.get(i);
+            if (node == null) {
+                return null;
+            }
+            if (node.key == key) {
+                return node.value;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /* Maps key to value and returns the previous value, or null. Null values are not allowed. */
+    public synchronized V put(long key, V value) {
+        return put(key, value, false);
+    }
+
+    /* Maps key to value only if it is not mapped yet, returning the existing value, or null. */
+    public synchronized V putIfAbsent(long key, V value) {
+        return put(key, value, true);
+    }
+
+    private V put(long key, V value, boolean onlyIfAbsent) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        AtomicReferenceArray<Node<V>> tab = table;
+        int mask = tab.length() - 1;
+        int i = indexFor(key, mask);
+        Node<V> node;
+        while ((node = tab.get(i)) != null) {
+            if (node.key == key) {
+                if (!onlyIfAbsent) {
+                    tab.set(i, new Node<>(key, value));
+                }
+                return node.value;
+            }
+            i = (i + 1) & mask;
+        }
+        tab.set(i, new Node<>(key, value));
+        // Keep the load factor at most 1/2 so probe sequences stay short
+        if (++size * 2 > tab.length()) {
+            resize(tab);
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void resize(AtomicReferenceArray<Node<V>> oldTable) {
+        AtomicReferenceArray<Node<V>> newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+        int mask = newTable.length() - 1;
+        for (int j = 0; j < oldTable.length(); j++) {
+            Node<V> node = oldTable.get(j);
+            if (node != null) {
+                int i = indexFor(node.key, mask);
+                while (newTable.get(i) != null) {
+                    i = (i + 1) & mask;
+                }
+                newTable.set(i, node);
+            }
+        }
+        table = newTable;
+    }
+
+    private static int indexFor(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static final class Node<V> implements Serializable {
+
+        private static final long serialVersionUID = -1572837403658290415L;
+        private final long key;
+        private final V value;
+
+        private Node(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -20,4 +20,20 @@ public class SerializationUtils {
         ois.close();
         return object;
     }
+
+    public static byte[] toBytes(Object object) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(object);
+        oos.close();
+        return baos.toByteArray();
+    }
+
+    public static Object fromBytes(byte[] bytes, ObjectInputFilter filter) throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        ois.setObjectInputFilter(filter);
+        Object object = ois.readObject();
+        ois.close();
+        return object;
+    }
 }
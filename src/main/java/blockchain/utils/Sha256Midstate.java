@@ -0,0 +1,246 @@
+package blockchain.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/*
+ * SHA-256 of prefix + decimal nonce + suffix, where the full 64 byte blocks of the prefix are compressed once.
+ * When the rest of the message fits in one block, LANES nonces are hashed per call with every round
+ * written as a loop over lanes. Instances are not thread safe.
+ */
+public class Sha256Midstate {
+
+    public static final int LANES = 8;
+    private static final int BLOCK_SIZE = 64;
+    private static final int MAX_NONCE_LENGTH = 20;
+    private static final int PADDING_LENGTH = 9;
+    private static final int[] INITIAL_STATE = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+    };
+    private static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+    };
+
+    private final int[] midstate;
+    private final byte[] tail;
+    private final byte[] suffix;
+    private final long prefixLength;
+    private final boolean singleBlock;
+    private final MessageDigest prefixDigest;
+    // Per call working state, one column per lane
+    private final byte[][] blocks = new byte[LANES][BLOCK_SIZE];
+    private final int[][] w = new int[64][LANES];
+    private final int[][] state = new int[8][LANES];
+    private final int[][] registers = new int[8][LANES];
+
+    public Sha256Midstate(String prefix, String suffix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+        prefixLength = prefixBytes.length;
+        int fullBlocks = prefixBytes.length / BLOCK_SIZE;
+        tail = Arrays.copyOfRange(prefixBytes, fullBlocks * BLOCK_SIZE, prefixBytes.length);
+        singleBlock = tail.length + MAX_NONCE_LENGTH + this.suffix.length + PADDING_LENGTH <= BLOCK_SIZE;
+        if (singleBlock) {
+            midstate = INITIAL_STATE.clone();
+            for (int i = 0; i < fullBlocks; i++) {
+                compressScalar(midstate, prefixBytes, i * BLOCK_SIZE);
+            }
+            prefixDigest = null;
+        } else {
+            // Rare: the nonce may spill into a second block, so fall back to cloning a digest of the prefix
+            midstate = null;
+            try {
+                prefixDigest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+            prefixDigest.update(prefixBytes);
+        }
+    }
+
+    /* Returns the index of the first nonce whose hash starts with numberOfZeros hex zeros, or -1. */
+    public int findMatch(long[] nonces, int numberOfZeros) {
+        if (!singleBlock) {
+            return findMatchWithDigest(nonces, numberOfZeros);
+        }
+        for (int offset = 0; offset < nonces.length; offset += LANES) {
+            int lanes = Math.min(LANES, nonces.length - offset);
+            hashLanes(nonces, offset, lanes);
+            for (int l = 0; l < lanes; l++) {
+                if (hasLeadingZeros(state, l, numberOfZeros)) {
+                    return offset + l;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int findMatchWithDigest(long[] nonces, int numberOfZeros) {
+        int[][] words = new int[8][1];
+        for (int i = 0; i < nonces.length; i++) {
+            byte[] hash;
+            try {
+                MessageDigest digest = (MessageDigest) prefixDigest.clone();
+                digest.update(Long.toString(nonces[i]).getBytes(StandardCharsets.UTF_8));
+                hash = digest.digest(suffix);
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException(e);
+            }
+            for (int j = 0; j < 8; j++) {
+                words[j][0] = readInt(hash, j * 4);
+            }
+            if (hasLeadingZeros(words, 0, numberOfZeros)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void hashLanes(long[] nonces, int offset, int lanes) {
+        for (int l = 0; l < lanes; l++) {
+            byte[] block = blocks[l];
+            Arrays.fill(block, (byte) 0);
+            System.arraycopy(tail, 0, block, 0, tail.length);
+            int pos = putDecimal(nonces[offset + l], block, tail.length);
+            System.arraycopy(suffix, 0, block, pos, suffix.length);
+            pos += suffix.length;
+            block[pos] = (byte) 0x80;
+            long bitLength = (prefixLength + pos - tail.length) * 8;
+            for (int i = 0; i < 8; i++) {
+                block[BLOCK_SIZE - 1 - i] = (byte) (bitLength >>> (8 * i));
+            }
+            for (int t = 0; t < 16; t++) {
+                w[t][l] = readInt(block, t * 4);
+            }
+        }
+        for (int t = 16; t < 64; t++) {
+            int[] w2 = w[t - 2], w7 = w[t - 7], w15 = w[t - 15], w16 = w[t - 16], wt = w[t];
+            for (int l = 0; l < LANES; l++) {
+                int s0 = Integer.rotateRight(w15[l], 7) ^ Integer.rotateRight(w15[l], 18) ^ (w15[l] >>> 3);
+                int s1 = Integer.rotateRight(w2[l], 17) ^ Integer.rotateRight(w2[l], 19) ^ (w2[l] >>> 10);
+                wt[l] = w16[l] + s0 + w7[l] + s1;
+            }
+        }
+        for (int i = 0; i < 8; i++) {
+            Arrays.fill(registers[i], midstate[i]);
+        }
+        int[] a = registers[0], b = registers[1], c = registers[2], d = registers[3];
+        int[] e = registers[4], f = registers[5], g = registers[6], h = registers[7];
+        for (int t = 0; t < 64; t++) {
+            int k = K[t];
+            int[] wt = w[t];
+            for (int l = 0; l < LANES; l++) {
+                int s1 = Integer.rotateRight(e[l], 6) ^ Integer.rotateRight(e[l], 11) ^ Integer.rotateRight(e[l], 25);
+                int ch = (e[l] & f[l]) ^ (~e[l] & g[l]);
+                int t1 = h[l] + s1 + ch + k + wt[l];
+                int s0 = Integer.rotateRight(a[l], 2) ^ Integer.rotateRight(a[l], 13) ^ Integer.rotateRight(a[l], 22);
+                int maj = (a[l] & b[l]) ^ (a[l] & c[l]) ^ (b[l] & c[l]);
+                d[l] += t1;
+                h[l] = t1 + s0 + maj;
+            }
+            // Rotate the register columns instead of moving every lane
+            int[] oldH = h;
+            h = g;
+            g = f;
+            f = e;
+            e = d;
+            d = c;
+            c = b;
+            b = a;
+            a = oldH;
+        }
+        int[][] rotated = {a, b, c, d, e, f, g, h};
+        for (int i = 0; i < 8; i++) {
+            int[] column = state[i];
+            int[] register = rotated[i];
+            int initial = midstate[i];
+            for (int l = 0; l < LANES; l++) {
+                column[l] = initial + register[l];
+            }
+        }
+    }
+
+    private static void compressScalar(int[] hash, byte[] data, int offset) {
+        int[] w = new int[64];
+        for (int t = 0; t < 16; t++) {
+            w[t] = readInt(data, offset + t * 4);
+        }
+        for (int t = 16; t < 64; t++) {
+            int s0 = Integer.rotateRight(w[t - 15], 7) ^ Integer.rotateRight(w[t - 15], 18) ^ (w[t - 15] >>> 3);
+            int s1 = Integer.rotateRight(w[t - 2], 17) ^ Integer.rotateRight(w[t - 2], 19) ^ (w[t - 2] >>> 10);
+            w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+        }
+        int a = hash[0], b = hash[1], c = hash[2], d = hash[3], e = hash[4], f = hash[5], g = hash[6], h = hash[7];
+        for (int t = 0; t < 64; t++) {
+            int t1 = h + (Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25))
+                    + ((e & f) ^ (~e & g)) + K[t] + w[t];
+            int t2 = (Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22))
+                    + ((a & b) ^ (a & c) ^ (b & c));
+            h = g;
+            g = f;
+            f = e;
+            e = d + t1;
+            d = c;
+            c = b;
+            b = a;
+            a = t1 + t2;
+        }
+        hash[0] += a;
+        hash[1] += b;
+        hash[2] += c;
+        hash[3] += d;
+        hash[4] += e;
+        hash[5] += f;
+        hash[6] += g;
+        hash[7] += h;
+    }
+
+    private static boolean hasLeadingZeros(int[][] words, int lane, int numberOfZeros) {
+        int bits = numberOfZeros * 4;
+        for (int i = 0; bits > 0; i++, bits -= 32) {
+            if (i == 8) {
+                return false;
+            }
+            int word = words[i][lane];
+            if (bits >= 32 ? word != 0 : word >>> (32 - bits) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Writes the decimal form of value like Long.toString, returning the position after the last digit. */
+    private static int putDecimal(long value, byte[] buffer, int pos) {
+        // Digits are taken from the negated value so Long.MIN_VALUE does not overflow
+        if (value < 0) {
+            buffer[pos++] = '-';
+        } else {
+            value = -value;
+        }
+        int start = pos;
+        do {
+            buffer[pos++] = (byte) ('0' - value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+        return pos;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xff) << 24 | (data[offset + 1] & 0xff) << 16
+                | (data[offset + 2] & 0xff) << 8 | (data[offset + 3] & 0xff);
+    }
+}
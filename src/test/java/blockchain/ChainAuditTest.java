@@ -0,0 +1,43 @@
+package blockchain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChainAuditTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void exportKeepsEachBlockOnOneLine() throws Exception {
+        String logFile = dir.resolve("chain.log").toString();
+        Block block = new Block(1, BlockChain.INITIAL_HASH, 0, "tab\there\nnew\\line", 7);
+        block.setTransactions(List.of(new Transaction(3, 7, 8, 42)));
+        try (ChainLog log = new ChainLog(logFile)) {
+            log.appendBlock(block);
+        }
+        Path output = dir.resolve("chain.tsv");
+
+        assertEquals(0, ChainAudit.run(new String[]{"export", logFile, output.toString()}));
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        String[] fields = lines.get(0).split("\t");
+        assertEquals(9, fields.length);
+        assertEquals("tab\\there\\nnew\\\\line", fields[3]);
+        assertEquals("3:7:8:42", fields[8]);
+    }
+
+    @Test
+    void exitStatusReflectsFailures() {
+        assertEquals(2, ChainAudit.run(new String[0]));
+        assertEquals(2, ChainAudit.run(new String[]{"verify", dir.resolve("missing.log").toString()}));
+    }
+}
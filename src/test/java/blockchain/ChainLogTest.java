@@ -0,0 +1,119 @@
+package blockchain;
+
+import blockchain.utils.CryptoUtils;
+import blockchain.utils.SerializationUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainLogTest {
+
+    private static KeyPair keys;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        keys = CryptoUtils.generateKeys(1024);
+    }
+
+    @Test
+    void readsBackUsersAndBlocks() throws Exception {
+        String file = dir.resolve("chain.log").toString();
+        Block first = new Block(1, BlockChain.INITIAL_HASH, 0, "miner1", 1);
+        first.setTransactions(List.of());
+        Transaction transaction = new Transaction(0, 2, 1, 10);
+        transaction.sign(keys.getPrivate());
+        Block second = new Block(2, first.getHash(), 0, "miner1", 1);
+        second.setTransactions(List.of(transaction));
+        try (ChainLog log = new ChainLog(file)) {
+            log.appendUser(1, "miner1", keys.getPublic().getEncoded());
+            log.appendBlock(first);
+            log.appendUser(2, "Alice", new byte[]{1, 2, 3});
+            // A later registration of the same id must not replace the first key
+            log.appendUser(1, "impostor", new byte[]{4});
+            log.appendBlock(second);
+        }
+
+        try (ChainLog.Reader reader = ChainLog.open(file)) {
+            Block block = reader.nextBlock();
+            assertEquals(first.getHash(), block.getHash());
+            assertArrayEquals(keys.getPublic().getEncoded(), reader.getPublicKey(1));
+            assertNull(reader.getPublicKey(2));
+
+            block = reader.nextBlock();
+            assertEquals(second.getHash(), block.getHash());
+            assertEquals(1, block.getTransactions().size());
+            assertEquals(10, block.getTransactions().get(0).getAmount());
+            assertArrayEquals(new byte[]{1, 2, 3}, reader.getPublicKey(2));
+            assertArrayEquals(keys.getPublic().getEncoded(), reader.getPublicKey(1));
+            assertEquals("miner1", reader.getUserName(1));
+
+            assertNull(reader.nextBlock());
+        }
+    }
+
+    @Test
+    void resetStartsAnEmptyLog() throws Exception {
+        String file = dir.resolve("chain.log").toString();
+        try (ChainLog log = new ChainLog(file)) {
+            Block block = new Block(1, BlockChain.INITIAL_HASH, 0, "miner1", 1);
+            block.setTransactions(List.of());
+            log.appendBlock(block);
+            log.reset();
+            log.appendUser(1, "miner1", new byte[]{1});
+        }
+        try (ChainLog.Reader reader = ChainLog.open(file)) {
+            assertNull(reader.nextBlock());
+            assertArrayEquals(new byte[]{1}, reader.getPublicKey(1));
+        }
+    }
+
+    @Test
+    void rejectsInvalidLengths() throws Exception {
+        String file = dir.resolve("chain.log").toString();
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+            dos.writeByte(2);
+            dos.writeInt(-1);
+        }
+        assertCorrupted(file, "invalid record length");
+
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+            dos.writeByte(1);
+            dos.writeLong(1);
+            dos.writeUTF("miner1");
+            dos.writeInt(Integer.MAX_VALUE);
+        }
+        assertCorrupted(file, "invalid record length");
+    }
+
+    @Test
+    void rejectsClassesOutsideTheBlockGraph() throws Exception {
+        String file = dir.resolve("chain.log").toString();
+        byte[] bytes = SerializationUtils.toBytes(new HashMap<>());
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(file))) {
+            dos.writeByte(2);
+            dos.writeInt(bytes.length);
+            dos.write(bytes);
+        }
+        assertCorrupted(file, "unexpected content");
+    }
+
+    private static void assertCorrupted(String file, String message) throws IOException {
+        try (ChainLog.Reader reader = ChainLog.open(file)) {
+            IOException e = assertThrows(IOException.class, reader::nextBlock);
+            assertTrue(e.getMessage().contains(message), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package blockchain;
+
+import blockchain.utils.CryptoUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainVerifierTest {
+
+    private static final long MINER_ID = 1;
+    private static final long SENDER_ID = 2;
+    private static final String MINER_NAME = "miner1";
+    private static final int BLOCKS = 4;
+    private static KeyPair minerKeys;
+    private static KeyPair senderKeys;
+    private static KeyPair otherKeys;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        minerKeys = CryptoUtils.generateKeys(1024);
+        senderKeys = CryptoUtils.generateKeys(1024);
+        otherKeys = CryptoUtils.generateKeys(1024);
+    }
+
+    @Test
+    void acceptsValidChain() throws Exception {
+        assertTrue(verify(mineChain(BLOCKS, -1, null)));
+    }
+
+    @Test
+    void rejectsBrokenLink() throws Exception {
+        assertFalse(verify(mineChain(BLOCKS, 2, "link")));
+    }
+
+    @Test
+    void rejectsHashNotMatchingContents() throws Exception {
+        List<Block> blocks = mineChain(BLOCKS, -1, null);
+        Field magicNumber = Block.class.getDeclaredField("magicNumber");
+        magicNumber.setAccessible(true);
+        Block block = blocks.get(2);
+        magicNumber.setLong(block, block.getMagicNumber() + 1);
+        assertFalse(verify(blocks));
+    }
+
+    @Test
+    void rejectsBadCreatorSignature() throws Exception {
+        assertFalse(verify(mineChain(BLOCKS, 1, "creator")));
+    }
+
+    @Test
+    void rejectsBadTransactionSignature() throws Exception {
+        assertFalse(verify(mineChain(BLOCKS, 3, "transaction")));
+    }
+
+    @Test
+    void failsOnTruncatedFile() throws Exception {
+        String file = write(mineChain(BLOCKS, -1, null));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+        IOException e = assertThrows(IOException.class, () -> new ChainVerifier(2).verify(file));
+        assertTrue(e.getMessage().contains("truncated"), e.getMessage());
+    }
+
+    /* Mines a chain with the same difficulty schedule as BlockChain, breaking the block at index tampered. */
+    private static List<Block> mineChain(int count, int tampered, String tampering) {
+        List<Block> blocks = new ArrayList<>();
+        String previousBlockHash = BlockChain.INITIAL_HASH;
+        int numberOfZeros = BlockChain.INITIAL_N;
+        int patternZeros = numberOfZeros;
+        for (int i = 0; i < count; i++) {
+            boolean tamper = i == tampered;
+            String linkedHash = tamper && tampering.equals("link") ? "bogus" : previousBlockHash;
+            Block block = new Block(i + 1, linkedHash, patternZeros, MINER_NAME, MINER_ID);
+            block.sign(tamper && tampering.equals("creator") ? otherKeys.getPrivate() : minerKeys.getPrivate());
+            Transaction transaction = new Transaction(i, SENDER_ID, MINER_ID, 5);
+            transaction.sign(tamper && tampering.equals("transaction") ? otherKeys.getPrivate() : senderKeys.getPrivate());
+            block.setTransactions(List.of(transaction));
+            blocks.add(block);
+
+            previousBlockHash = block.getHash();
+            int adjustment = BlockChain.adjustNumberOfZeros(numberOfZeros, block.getGenerationTimeSeconds());
+            if (adjustment != 0) {
+                patternZeros = numberOfZeros;
+            }
+            numberOfZeros += adjustment;
+        }
+        return blocks;
+    }
+
+    private String write(List<Block> blocks) throws IOException {
+        String file = dir.resolve("chain.log").toString();
+        try (ChainLog log = new ChainLog(file)) {
+            log.appendUser(MINER_ID, MINER_NAME, minerKeys.getPublic().getEncoded());
+            log.appendUser(SENDER_ID, "Alice", senderKeys.getPublic().getEncoded());
+            for (Block block : blocks) {
+                log.appendBlock(block);
+            }
+        }
+        return file;
+    }
+
+    private boolean verify(List<Block> blocks) throws Exception {
+        return new ChainVerifier(2).verify(write(blocks));
+    }
+}
@@ -0,0 +1,130 @@
+package blockchain.user;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRegistryTest {
+
+    // Enough users to grow both the id array and the map several times
+    private static final int USERS = 40;
+    // Sparse ids, far from the ones Main hands out
+    private static final long FIRST_ID = 1_000_000;
+    private static final long ID_STEP = 7_919;
+    private static final List<User> users = new ArrayList<>();
+
+    @BeforeAll
+    static void createUsers() throws Exception {
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User(FIRST_ID + i * ID_STEP, "user" + i));
+        }
+    }
+
+    @Test
+    void duplicateIdKeepsFirstRegistration() throws Exception {
+        UserRegistry registry = new UserRegistry();
+        User first = users.get(0);
+        User impostor = new User(first.getId(), "impostor");
+
+        assertTrue(registry.register(first));
+        assertFalse(registry.register(impostor));
+
+        assertSame(first, registry.get(first.getId()));
+        assertEquals(first.getPublicKey(), registry.getPublicKey(first.getId()));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void randomUserIsNeverExcludedAndRoughlyUniform() {
+        UserRegistry registry = new UserRegistry();
+        List<User> registered = users.subList(0, 5);
+        registered.forEach(registry::register);
+        long excluded = registered.get(2).getId();
+        int draws = 40_000;
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < draws; i++) {
+            long id = registry.getRandomUserId(excluded);
+            assertNotEquals(excluded, id);
+            counts.merge(id, 1, Integer::sum);
+        }
+        assertEquals(registered.size() - 1, counts.size());
+        int expected = draws / counts.size();
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - expected) < expected / 10, counts.toString());
+        }
+    }
+
+    @Test
+    void randomUserNeedsAnotherUser() {
+        UserRegistry registry = new UserRegistry();
+        assertThrows(IllegalStateException.class, () -> registry.getRandomUserId(1));
+        User only = users.get(0);
+        registry.register(only);
+        assertThrows(IllegalStateException.class, () -> registry.getRandomUserId(only.getId()));
+        // A caller that is not registered can still be sent to the only user
+        assertEquals(only.getId(), registry.getRandomUserId(only.getId() + 1));
+    }
+
+    @Test
+    void concurrentRegisterAndGet() throws Exception {
+        UserRegistry registry = new UserRegistry();
+        int writers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (User user : users) {
+                    User found = registry.get(user.getId());
+                    if (found != null && (found != user || registry.getPublicKey(user.getId()) != user.getPublicKey())) {
+                        failure.set("wrong entry for " + user.getId());
+                    }
+                }
+                if (registry.size() >= 2) {
+                    long id = registry.getRandomUserId(users.get(0).getId());
+                    if (registry.get(id) == null || id == users.get(0).getId()) {
+                        failure.set("random id " + id + " is not a registered other user");
+                    }
+                }
+            }
+        });
+        reader.start();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int offset = w;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = offset; i < USERS; i += writers) {
+                    registry.register(users.get(i));
+                }
+            });
+            threads.add(writer);
+            writer.start();
+        }
+        start.countDown();
+        for (Thread writer : threads) {
+            writer.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(USERS, registry.size());
+        for (User user : users) {
+            assertSame(user, registry.get(user.getId()));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package blockchain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongConcurrentMapTest {
+
+    @Test
+    void matchesHashMapAcrossResizes() {
+        LongConcurrentMap<Long> map = new LongConcurrentMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random rng = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // Sparse keys of every magnitude and sign, with some repeats
+            long key = i % 10 == 0 ? -i : rng.nextLong() >> rng.nextInt(64);
+            assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long key = rng.nextLong();
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertNull(map.get(Long.MIN_VALUE));
+        map.put(Long.MIN_VALUE, 1L);
+        map.put(0, 2L);
+        assertEquals(1L, map.get(Long.MIN_VALUE));
+        assertEquals(2L, map.get(0));
+    }
+
+    @Test
+    void putIfAbsentKeepsExistingValue() {
+        LongConcurrentMap<String> map = new LongConcurrentMap<>();
+        assertNull(map.putIfAbsent(-5, "first"));
+        assertEquals("first", map.putIfAbsent(-5, "second"));
+        assertEquals("first", map.get(-5));
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey(-5));
+        assertFalse(map.containsKey(5));
+    }
+
+    @Test
+    void readersSeeEveryPublishedKeyWhileResizing() throws Exception {
+        int keys = 200_000;
+        LongConcurrentMap<Long> map = new LongConcurrentMap<>();
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                Random rng = new Random();
+                while (!done.get() && failure.get() == null) {
+                    int published = inserted.get();
+                    if (published == 0) {
+                        continue;
+                    }
+                    long key = sparseKey(rng.nextInt(published));
+                    Long value = map.get(key);
+                    if (value == null || value != key * 3) {
+                        failure.set("key " + key + " read as " + value);
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (int i = 0; i < keys; i++) {
+            long key = sparseKey(i);
+            map.put(key, key * 3);
+            inserted.set(i + 1);
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(keys, map.size());
+    }
+
+    private static long sparseKey(int i) {
+        return (i % 2 == 0 ? 1 : -1) * (long) i * 1_000_003L;
+    }
+}
@@ -0,0 +1,61 @@
+package blockchain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Sha256MidstateTest {
+
+    private static final String GENESIS_PREFIX = "[1, 1792413896212, 0, ";
+    private static final String BLOCK_PREFIX =
+            "[12, 1792413896212, 027775cdf530517599c441b9327fc2465303a370d30b31f2efee17acfb93cfb3, ";
+    // Exactly one cached block, leaving an empty tail
+    private static final String ALIGNED_PREFIX = "y".repeat(64);
+    // Long enough tail that a nonce may spill into a second block, taking the digest fallback
+    private static final String FALLBACK_PREFIX = "z".repeat(100);
+    private static final String SUFFIX = "]";
+
+    @Test
+    void matchesDigestForEdgeNonces() {
+        long[] nonces = {Long.MIN_VALUE, 0, Long.MAX_VALUE, -1, 1, 9, -10, 1_000_000_000_000L};
+        for (String prefix : new String[]{GENESIS_PREFIX, BLOCK_PREFIX, ALIGNED_PREFIX, FALLBACK_PREFIX, ""}) {
+            for (long nonce : nonces) {
+                assertMatchesDigest(prefix, new long[]{nonce});
+            }
+        }
+    }
+
+    @Test
+    void matchesDigestForRandomNonces() {
+        Random rng = new Random(42);
+        for (String prefix : new String[]{GENESIS_PREFIX, BLOCK_PREFIX, ALIGNED_PREFIX, FALLBACK_PREFIX}) {
+            for (int i = 0; i < 2000; i++) {
+                long[] nonces = new long[Sha256Midstate.LANES + 3];
+                for (int j = 0; j < nonces.length; j++) {
+                    nonces[j] = rng.nextLong() >> rng.nextInt(64);
+                }
+                assertMatchesDigest(prefix, nonces);
+            }
+        }
+    }
+
+    private static void assertMatchesDigest(String prefix, long[] nonces) {
+        Sha256Midstate sha256 = new Sha256Midstate(prefix, SUFFIX);
+        for (int numberOfZeros = 0; numberOfZeros <= 2; numberOfZeros++) {
+            assertEquals(expectedMatch(prefix, nonces, numberOfZeros), sha256.findMatch(nonces, numberOfZeros),
+                    String.format("prefix '%s', %d zeros", prefix, numberOfZeros));
+        }
+    }
+
+    private static int expectedMatch(String prefix, long[] nonces, int numberOfZeros) {
+        String zeros = "0".repeat(numberOfZeros);
+        for (int i = 0; i < nonces.length; i++) {
+            if (StringUtil.applySha256(prefix + nonces[i] + SUFFIX).startsWith(zeros)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}